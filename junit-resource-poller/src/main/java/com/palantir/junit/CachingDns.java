@@ -0,0 +1,186 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import okhttp3.Dns;
+
+/**
+ * A {@link Dns} that remembers successful lookups for {@code positiveTtlMillis} and failed lookups for
+ * {@code negativeTtlMillis}, and gives up on any single lookup after {@code lookupTimeoutMillis}.
+ *
+ * <p>Hostnames in docker-compose networks typically do not resolve until their container has been created, and a failed
+ * lookup against the embedded resolver can take seconds. A shared instance (see {@link #shared()}) resolves every
+ * hostname at most once per TTL across all resources using it, and a slow lookup keeps running in the background while
+ * the poller moves on to its next attempt.
+ */
+public final class CachingDns implements Dns {
+    private static final CachingDns SHARED = builder().build();
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final Dns delegate;
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+    private final long lookupTimeoutMillis;
+    private final LongSupplier nanoClock;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "junit-resource-poller-dns-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ConcurrentMap<String, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+
+    private CachingDns(
+            Dns delegate,
+            long positiveTtlMillis,
+            long negativeTtlMillis,
+            long lookupTimeoutMillis,
+            LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.positiveTtlNanos = TimeUnit.MILLISECONDS.toNanos(positiveTtlMillis);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.lookupTimeoutMillis = lookupTimeoutMillis;
+        this.nanoClock = nanoClock;
+    }
+
+    /** A JVM-wide instance with default TTLs that delegates to {@link Dns#SYSTEM}. */
+    public static CachingDns shared() {
+        return SHARED;
+    }
+
+    public static CachingDns.Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        long now = nanoClock.getAsLong();
+        CompletableFuture<Entry> entry = entries.compute(
+                hostname, (host, existing) -> isExpired(existing, now) ? startLookup(host) : existing);
+        try {
+            return entry.get(lookupTimeoutMillis, TimeUnit.MILLISECONDS).addresses();
+        } catch (TimeoutException e) {
+            throw unknownHost(
+                    String.format(
+                            "Lookup of %s did not complete within %d milliseconds", hostname, lookupTimeoutMillis),
+                    e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw unknownHost("Interrupted while looking up " + hostname, e);
+        } catch (ExecutionException e) {
+            throw unknownHost("Failed to look up " + hostname, e.getCause());
+        }
+    }
+
+    private boolean isExpired(CompletableFuture<Entry> entry, long now) {
+        if (entry == null || entry.isCompletedExceptionally()) {
+            return true;
+        }
+        // lookups that are still in flight are shared rather than restarted
+        return entry.isDone() && entry.join().expiresAtNanos - now <= 0;
+    }
+
+    private CompletableFuture<Entry> startLookup(String hostname) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        List<InetAddress> addresses = delegate.lookup(hostname);
+                        return new Entry(addresses, null, nanoClock.getAsLong() + positiveTtlNanos);
+                    } catch (UnknownHostException e) {
+                        return new Entry(null, e, nanoClock.getAsLong() + negativeTtlNanos);
+                    }
+                },
+                executor);
+    }
+
+    private static UnknownHostException unknownHost(String message, Throwable cause) {
+        UnknownHostException exception = new UnknownHostException(message);
+        exception.initCause(cause);
+        return exception;
+    }
+
+    private static final class Entry {
+        private final List<InetAddress> addresses;
+        private final UnknownHostException failure;
+        private final long expiresAtNanos;
+
+        private Entry(List<InetAddress> addresses, UnknownHostException failure, long expiresAtNanos) {
+            this.addresses = addresses;
+            this.failure = failure;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private List<InetAddress> addresses() throws UnknownHostException {
+            if (failure != null) {
+                // a fresh exception per lookup so that the stack trace points at the caller
+                throw unknownHost(failure.getMessage(), failure);
+            }
+            return addresses;
+        }
+    }
+
+    public static final class Builder {
+        private Dns delegate = Dns.SYSTEM;
+        private long positiveTtlMillis = 30_000;
+        private long negativeTtlMillis = 1_000;
+        private long lookupTimeoutMillis = 1_000;
+        private LongSupplier nanoClock = System::nanoTime;
+
+        private Builder() {}
+
+        public Builder delegate(Dns value) {
+            this.delegate = value;
+            return this;
+        }
+
+        public Builder positiveTtlMillis(long value) {
+            this.positiveTtlMillis = value;
+            return this;
+        }
+
+        public Builder negativeTtlMillis(long value) {
+            this.negativeTtlMillis = value;
+            return this;
+        }
+
+        public Builder lookupTimeoutMillis(long value) {
+            this.lookupTimeoutMillis = value;
+            return this;
+        }
+
+        Builder nanoClock(LongSupplier value) {
+            this.nanoClock = value;
+            return this;
+        }
+
+        public CachingDns build() {
+            return new CachingDns(delegate, positiveTtlMillis, negativeTtlMillis, lookupTimeoutMillis, nanoClock);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import java.util.Objects;
+import java.util.OptionalInt;
+
+/**
+ * A URL polled by {@link HttpPollingResource}, with optional settings that override the resource's for this URL only.
+ *
+ * <p>By default an endpoint is probed in every attempt of the poll loop. With {@code intervalMillis}, it is probed at
+ * most that often and its last result is reused in the attempts in between; every consecutive failure multiplies the
+ * interval by {@code backoffMultiplier}, up to {@code maxIntervalMillis}. Endpoints with a higher {@code priority} are
+ * probed first, so that the endpoints most likely to hold up readiness are detected without probing all others.
+ */
+public final class HttpEndpoint {
+    private final String url;
+    private final OptionalInt connectionTimeoutMillis;
+    private final OptionalInt readTimeoutMillis;
+    private final long intervalMillis;
+    private final double backoffMultiplier;
+    private final long maxIntervalMillis;
+    private final int priority;
+
+    private HttpEndpoint(Builder builder) {
+        this.url = Objects.requireNonNull(builder.url, "url");
+        this.connectionTimeoutMillis = builder.connectionTimeoutMillis;
+        this.readTimeoutMillis = builder.readTimeoutMillis;
+        this.intervalMillis = builder.intervalMillis;
+        this.backoffMultiplier = builder.backoffMultiplier;
+        this.maxIntervalMillis = builder.maxIntervalMillis;
+        this.priority = builder.priority;
+    }
+
+    public static HttpEndpoint of(String url) {
+        return builder().url(url).build();
+    }
+
+    public static HttpEndpoint.Builder builder() {
+        return new Builder();
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public OptionalInt connectionTimeoutMillis() {
+        return connectionTimeoutMillis;
+    }
+
+    public OptionalInt readTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public long intervalMillis() {
+        return intervalMillis;
+    }
+
+    public double backoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    public long maxIntervalMillis() {
+        return maxIntervalMillis;
+    }
+
+    public int priority() {
+        return priority;
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+
+    public static final class Builder {
+        private String url;
+        private OptionalInt connectionTimeoutMillis = OptionalInt.empty();
+        private OptionalInt readTimeoutMillis = OptionalInt.empty();
+        private long intervalMillis = 0;
+        private double backoffMultiplier = 1;
+        private long maxIntervalMillis = Long.MAX_VALUE;
+        private int priority = 0;
+
+        private Builder() {}
+
+        public Builder url(String value) {
+            this.url = value;
+            return this;
+        }
+
+        public Builder connectionTimeoutMillis(int value) {
+            this.connectionTimeoutMillis = OptionalInt.of(value);
+            return this;
+        }
+
+        public Builder readTimeoutMillis(int value) {
+            this.readTimeoutMillis = OptionalInt.of(value);
+            return this;
+        }
+
+        public Builder intervalMillis(long value) {
+            this.intervalMillis = value;
+            return this;
+        }
+
+        public Builder backoffMultiplier(double value) {
+            if (value < 1) {
+                throw new IllegalArgumentException("Backoff multiplier must be at least 1, was " + value);
+            }
+            this.backoffMultiplier = value;
+            return this;
+        }
+
+        public Builder maxIntervalMillis(long value) {
+            this.maxIntervalMillis = value;
+            return this;
+        }
+
+        public Builder priority(int value) {
+            this.priority = value;
+            return this;
+        }
+
+        public HttpEndpoint build() {
+            return new HttpEndpoint(this);
+        }
+    }
+}
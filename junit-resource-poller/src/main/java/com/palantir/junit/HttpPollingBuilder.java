@@ -18,19 +18,31 @@ package com.palantir.junit;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.X509TrustManager;
+import okhttp3.Dns;
 
 @SuppressWarnings("VisibilityModifier")
 abstract class HttpPollingBuilder<B> {
     protected Optional<SSLSocketFactory> sslSocketFactory = Optional.empty();
     protected Optional<X509TrustManager> x509TrustManager = Optional.empty();
-    protected Collection<String> pollRequests;
+    protected List<HttpEndpoint> pollEndpoints = new ArrayList<>();
+    protected OptionalInt quorum = OptionalInt.empty();
+    protected List<QuorumGroup> quorumGroups = new ArrayList<>();
     protected int numAttempts;
     protected long intervalMillis = 100;
     protected int connectionTimeoutMillis = 500;
     protected int readTimeoutMillis = 500;
+    protected Dns dns = Dns.SYSTEM;
+    protected HttpTransport.Factory transport = HttpTransport.okHttp();
+    protected Optional<StartupHistory> startupHistory = Optional.empty();
+    protected OptionalLong pollTimeoutMillis = OptionalLong.empty();
+    protected int warmConnectionsPerEndpoint;
 
     public B sslParameters(Optional<HttpPollingResource.SslParameters> value) {
         if (value.isPresent()) {
@@ -51,7 +63,33 @@ abstract class HttpPollingBuilder<B> {
     }
 
     public B pollUrls(Collection<String> value) {
-        this.pollRequests = new ArrayList<>(value);
+        return pollEndpoints(toEndpoints(value));
+    }
+
+    /** Like {@link #pollUrls}, but with per-endpoint timeouts, polling cadence and priority. */
+    public B pollEndpoints(Collection<HttpEndpoint> value) {
+        this.pollEndpoints = new ArrayList<>(value);
+        return (B) this;
+    }
+
+    /**
+     * Considers the {@link #pollEndpoints} ready once {@code value} of them succeed, rather than all of them. The URLs
+     * are then probed concurrently, and outstanding probes are cancelled as soon as the quorum is reached or can no
+     * longer be reached.
+     */
+    public B quorum(int value) {
+        this.quorum = OptionalInt.of(value);
+        return (B) this;
+    }
+
+    /** Additionally waits until {@code quorum} of the given URLs succeed, see {@link #quorum}. */
+    public B pollUrlQuorum(Collection<String> urls, int quorum) {
+        return pollEndpointQuorum(toEndpoints(urls), quorum);
+    }
+
+    /** Like {@link #pollUrlQuorum}, but with per-endpoint timeouts, polling cadence and priority. */
+    public B pollEndpointQuorum(Collection<HttpEndpoint> endpoints, int quorum) {
+        this.quorumGroups.add(new QuorumGroup(new ArrayList<>(endpoints), quorum));
         return (B) this;
     }
 
@@ -65,6 +103,15 @@ abstract class HttpPollingBuilder<B> {
         return (B) this;
     }
 
+    /**
+     * Gives up polling once {@code value} milliseconds have passed, however many attempts are left, and cancels the
+     * probes still in flight at that point. Every probe's call timeout is clamped to the time left.
+     */
+    public B pollTimeoutMillis(long value) {
+        this.pollTimeoutMillis = OptionalLong.of(value);
+        return (B) this;
+    }
+
     public B connectionTimeoutMillis(int value) {
         this.connectionTimeoutMillis = value;
         return (B) this;
@@ -74,4 +121,61 @@ abstract class HttpPollingBuilder<B> {
         this.readTimeoutMillis = value;
         return (B) this;
     }
+
+    /**
+     * Resolves poll URL hostnames with the given {@link Dns}, {@link Dns#SYSTEM} by default. Use {@link CachingDns} to
+     * avoid repeated slow lookups of hostnames that do not resolve yet.
+     */
+    public B dns(Dns value) {
+        this.dns = value;
+        return (B) this;
+    }
+
+    /** Polls with the given transport, {@link HttpTransport#okHttp()} by default. */
+    public B transport(HttpTransport.Factory value) {
+        this.transport = value;
+        return (B) this;
+    }
+
+    /**
+     * Records how long the poll URLs took to become ready in the given history, and holds back polling until shortly
+     * before the recorded time in subsequent runs, see {@link ResourcePoller#poll(int, long, PollableResource,
+     * StartupHistory, String)}.
+     */
+    public B startupHistory(StartupHistory value) {
+        this.startupHistory = Optional.of(value);
+        return (B) this;
+    }
+
+    /**
+     * Once the services are ready, sends {@code value} concurrent requests to every endpoint so that the pool of the
+     * HTTP client holds up to that many established connections per endpoint for tests to reuse, see
+     * {@link HttpPollingResource#httpClient()}. Defaults to 0, which leaves just the connections used for polling.
+     */
+    public B warmConnectionsPerEndpoint(int value) {
+        this.warmConnectionsPerEndpoint = value;
+        return (B) this;
+    }
+
+    HttpPollingResource buildResource() {
+        return new HttpPollingResource(this);
+    }
+
+    private static List<HttpEndpoint> toEndpoints(Collection<String> urls) {
+        return urls.stream().map(HttpEndpoint::of).collect(Collectors.toList());
+    }
+
+    static final class QuorumGroup {
+        final List<HttpEndpoint> endpoints;
+        final int quorum;
+
+        QuorumGroup(List<HttpEndpoint> endpoints, int quorum) {
+            if (quorum < 1 || quorum > endpoints.size()) {
+                throw new IllegalArgumentException(
+                        String.format("Quorum must be between 1 and %d, was %d", endpoints.size(), quorum));
+            }
+            this.endpoints = endpoints;
+            this.quorum = quorum;
+        }
+    }
 }
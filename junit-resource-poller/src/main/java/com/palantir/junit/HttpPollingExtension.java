@@ -17,11 +17,18 @@
 package com.palantir.junit;
 
 import java.util.Optional;
+import okhttp3.OkHttpClient;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.Extension;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
 
-public final class HttpPollingExtension implements Extension, BeforeAllCallback, PollableResource {
+/**
+ * A JUnit5 extension that waits for remote services to become available before all tests, and resolves test method
+ * parameters of type {@link HttpReadiness} to check on them again from within tests.
+ */
+public final class HttpPollingExtension implements Extension, BeforeAllCallback, ParameterResolver, PollableResource {
     private final HttpPollingResource delegate;
 
     private HttpPollingExtension(HttpPollingResource delegate) {
@@ -33,6 +40,29 @@ public final class HttpPollingExtension implements Extension, BeforeAllCallback,
         delegate.before();
     }
 
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext _extensionContext) {
+        return parameterContext.getParameter().getType() == HttpReadiness.class;
+    }
+
+    @Override
+    public HttpReadiness resolveParameter(ParameterContext _parameterContext, ExtensionContext _extensionContext) {
+        return readiness();
+    }
+
+    /**
+     * The handle that is injected into {@link HttpReadiness} parameters, for tests that register more than one
+     * extension and therefore cannot have it injected.
+     */
+    public HttpReadiness readiness() {
+        return delegate.readiness();
+    }
+
+    /** See {@link HttpPollingResource#httpClient()}. */
+    public OkHttpClient httpClient() {
+        return delegate.httpClient();
+    }
+
     public static HttpPollingExtension.Builder builder() {
         return new HttpPollingExtension.Builder();
     }
@@ -44,15 +74,7 @@ public final class HttpPollingExtension implements Extension, BeforeAllCallback,
 
     public static final class Builder extends HttpPollingBuilder<Builder> {
         public HttpPollingExtension build() {
-            return new HttpPollingExtension(
-                    new HttpPollingResource(
-                            sslSocketFactory,
-                            x509TrustManager,
-                            pollRequests,
-                            numAttempts,
-                            intervalMillis,
-                            connectionTimeoutMillis,
-                            readTimeoutMillis));
+            return new HttpPollingExtension(buildResource());
         }
     }
 }
@@ -16,29 +16,43 @@
 
 package com.palantir.junit;
 
-import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.X509TrustManager;
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 import org.junit.rules.ExternalResource;
 
 /** A JUnit4 resource representing a list of remote services that can be polled for availability through a URL. */
 public final class HttpPollingResource extends ExternalResource implements PollableResource {
 
-    private final OkHttpClient client;
-    private final List<Request> pollRequests;
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+    private final HttpTransport.Factory transportFactory;
+    private final HttpTransport.Settings transportSettings;
+    private final List<HttpPollingBuilder.QuorumGroup> quorumGroups;
+    private final List<String> pollUrls;
     private final int numAttempts;
     private final long intervalMillis;
+    private final Optional<StartupHistory> startupHistory;
+    private final OptionalLong pollTimeoutMillis;
+    private final int warmConnectionsPerEndpoint;
+
+    private final HttpReadiness readiness = new HttpReadiness(this);
+
+    private HttpTransport transport;
+    private List<EndpointGroup> endpointGroups;
 
     public static HttpPollingResource.Builder builder() {
         return new Builder();
@@ -128,76 +142,236 @@ public final class HttpPollingResource extends ExternalResource implements Polla
             long intervalMillis,
             int connectionTimeoutMillis,
             int readTimeoutMillis) {
-        this(
-                socketFactory,
-                Optional.empty(),
-                pollRequests,
-                numAttempts,
-                intervalMillis,
-                connectionTimeoutMillis,
-                readTimeoutMillis);
+        this(legacyBuilder(socketFactory)
+                .pollUrls(pollRequests)
+                .numAttempts(numAttempts)
+                .intervalMillis(intervalMillis)
+                .connectionTimeoutMillis(connectionTimeoutMillis)
+                .readTimeoutMillis(readTimeoutMillis));
     }
 
-    HttpPollingResource(
-            Optional<SSLSocketFactory> sslSocketFactory,
-            Optional<X509TrustManager> x509TrustManager,
-            Collection<String> pollRequests,
-            int numAttempts,
-            long intervalMillis,
-            int connectionTimeoutMillis,
-            int readTimeoutMillis) {
-        OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder();
-        clientBuilder.connectTimeout(connectionTimeoutMillis, TimeUnit.MILLISECONDS);
-        clientBuilder.readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS);
-        if (sslSocketFactory.isPresent()) {
-            if (x509TrustManager.isPresent()) {
-                clientBuilder.sslSocketFactory(sslSocketFactory.get(), x509TrustManager.get());
-            } else {
-                clientBuilder.sslSocketFactory(sslSocketFactory.get());
-            }
+    private static Builder legacyBuilder(Optional<SSLSocketFactory> socketFactory) {
+        Builder builder = builder();
+        socketFactory.ifPresent(builder::sslSocketFactory);
+        return builder;
+    }
+
+    HttpPollingResource(HttpPollingBuilder<?> builder) {
+        this.transportFactory = builder.transport;
+        List<HttpPollingBuilder.QuorumGroup> groups = new ArrayList<>();
+        if (!builder.pollEndpoints.isEmpty()) {
+            groups.add(new HttpPollingBuilder.QuorumGroup(
+                    builder.pollEndpoints, builder.quorum.orElse(builder.pollEndpoints.size())));
         }
-        this.client = clientBuilder.build();
-        this.pollRequests = pollRequests.stream()
-                .map(url -> {
-                    try {
-                        return new Request.Builder().url(new URL(url)).build();
-                    } catch (MalformedURLException e) {
-                        throw new RuntimeException(e);
-                    }
-                })
+        groups.addAll(builder.quorumGroups);
+        this.quorumGroups = groups;
+        this.pollUrls = groups.stream()
+                .flatMap(group -> group.endpoints.stream())
+                .map(HttpEndpoint::url)
                 .collect(Collectors.toList());
-        this.numAttempts = numAttempts;
-        this.intervalMillis = intervalMillis;
+        pollUrls.forEach(transportFactory::checkUrl);
+        this.transportSettings = new HttpTransport.Settings(
+                builder.connectionTimeoutMillis,
+                builder.readTimeoutMillis,
+                builder.sslSocketFactory,
+                builder.x509TrustManager,
+                builder.dns,
+                Math.max(DEFAULT_MAX_IDLE_CONNECTIONS, builder.warmConnectionsPerEndpoint * pollUrls.size()));
+        this.numAttempts = builder.numAttempts;
+        this.intervalMillis = builder.intervalMillis;
+        this.startupHistory = builder.startupHistory;
+        this.pollTimeoutMillis = builder.pollTimeoutMillis;
+        this.warmConnectionsPerEndpoint = builder.warmConnectionsPerEndpoint;
+    }
+
+    /** A handle for checking readiness again after {@link #before()}, which reuses the HTTP client of this resource. */
+    public HttpReadiness readiness() {
+        return readiness;
+    }
+
+    /**
+     * The client this resource polls with, whose connection pool still holds the connections (and TLS sessions) that
+     * were established while polling, see {@link Builder#warmConnectionsPerEndpoint}. Derive clients for tests with
+     * {@link OkHttpClient#newBuilder()} to share its pool; note that its timeouts are the short ones used for polling.
+     * Throws an {@link IllegalStateException} unless the resource polls with {@link HttpTransport#okHttp()}.
+     */
+    public synchronized OkHttpClient httpClient() {
+        endpointGroups();
+        if (!(transport instanceof OkHttpTransport)) {
+            throw new IllegalStateException("The HTTP client is only available with HttpTransport.okHttp()");
+        }
+        return ((OkHttpTransport) transport).client();
     }
 
     @Override
     public Optional<Exception> isReady() {
-        for (Request request : pollRequests) {
-            try {
-                Response response = client.newCall(request).execute();
-                response.body().close();
-                if (!response.isSuccessful()) {
-                    return Optional.of(new RuntimeException(String.format(
-                            "Received non-success error code %s from resource %s", response.code(), request.url())));
-                }
-            } catch (IOException e) {
-                return Optional.of(new RuntimeException("HTTP connection error for resource " + request.url(), e));
+        return isReady(PollEndpoint::isDue, OptionalLong.empty());
+    }
+
+    /** Probes the endpoints that {@code needsProbe}, and uses the last result of the others. */
+    private Optional<Exception> isReady(Predicate<PollEndpoint> needsProbe, OptionalLong deadline) {
+        for (EndpointGroup group : endpointGroups()) {
+            Optional<Exception> result = group.quorum < group.endpoints.size()
+                    ? QuorumProbe.await(group.endpoints, group.quorum, needsProbe, deadline)
+                    : probeAll(group.endpoints, needsProbe, deadline);
+            if (result.isPresent()) {
+                return result;
             }
         }
         return Optional.empty();
     }
 
+    /**
+     * Probes the endpoints one after another, stopping at the first failure. Endpoints that do not need a probe
+     * contribute their last result.
+     */
+    private static Optional<Exception> probeAll(
+            List<PollEndpoint> endpoints, Predicate<PollEndpoint> needsProbe, OptionalLong deadline) {
+        for (PollEndpoint endpoint : endpoints) {
+            Optional<Exception> result =
+                    needsProbe.test(endpoint) ? endpoint.await(deadline) : endpoint.lastResult();
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Creates the transport on first use, so that resources which are never polled never create an HTTP client. */
+    private synchronized List<EndpointGroup> endpointGroups() {
+        if (endpointGroups == null) {
+            transport = transportFactory.create(transportSettings);
+            endpointGroups = quorumGroups.stream()
+                    .map(group -> new EndpointGroup(
+                            group.endpoints.stream()
+                                    .sorted(Comparator.comparingInt(HttpEndpoint::priority)
+                                            .reversed())
+                                    .map(endpoint -> new PollEndpoint(endpoint, transport, transportSettings))
+                                    .collect(Collectors.toList()),
+                            group.quorum))
+                    .collect(Collectors.toList());
+        }
+        return endpointGroups;
+    }
+
+    /** The URLs with the outcome of their last probe, or just the URLs if they were never polled. */
+    private synchronized List<String> endpointStatuses() {
+        if (endpointGroups == null) {
+            return pollUrls;
+        }
+        return endpointGroups.stream()
+                .flatMap(group -> group.endpoints.stream())
+                .map(endpoint -> endpoint + " (" + endpoint.lastStatus() + ")")
+                .collect(Collectors.toList());
+    }
+
     @Override
     protected void before() {
+        long start = System.nanoTime();
+        // every poll starts out probing all endpoints, regardless of their cadence in previous polls
+        endpointGroups().forEach(group -> group.endpoints.forEach(PollEndpoint::reset));
+        poll(start, numAttempts, pollTimeoutMillis, startupHistory, Optional.empty());
+        warmConnections(deadline(start, pollTimeoutMillis));
+    }
+
+    /**
+     * Sends {@link #warmConnectionsPerEndpoint} concurrent requests to every endpoint that was ready when polling
+     * finished, so that the transport opens as many connections as are needed to serve them and keeps them alive
+     * afterwards. Endpoints that failed or were never probed, like replicas beyond a quorum, are likely to hang.
+     */
+    private void warmConnections(OptionalLong deadline) {
+        List<CompletableFuture<Integer>> requests = new ArrayList<>();
+        for (EndpointGroup group : endpointGroups()) {
+            for (PollEndpoint endpoint : group.endpoints) {
+                if (!endpoint.wasReady()) {
+                    continue;
+                }
+                for (int i = 0; i < warmConnectionsPerEndpoint; i++) {
+                    requests.add(endpoint.send(deadline));
+                }
+            }
+        }
+        // failures only mean that tests have to set up some of their connections themselves
+        requests.forEach(request -> request.handle((_statusCode, _error) -> null).join());
+    }
+
+    /** See {@link HttpReadiness#isReadyNow()}. */
+    boolean isReadyNow() {
+        return !isReady(_endpoint -> true, OptionalLong.empty()).isPresent();
+    }
+
+    /** See {@link HttpReadiness#isReady(Duration)}. */
+    boolean isReady(Duration maxAge) {
+        long maxAgeNanos = maxAge.toNanos();
+        return !isReady(endpoint -> !endpoint.isFresh(maxAgeNanos), OptionalLong.empty()).isPresent();
+    }
+
+    /** See {@link HttpReadiness#awaitReady(Duration)}. */
+    void awaitReady(Duration timeout) {
+        long start = System.nanoTime();
+        OptionalLong timeoutMillis = OptionalLong.of(timeout.toMillis());
+        // endpoints that are still ready are not worth spinning up a poller for
+        Optional<Exception> failure = isReady(_endpoint -> true, deadline(start, timeoutMillis));
+        if (!failure.isPresent()) {
+            return;
+        }
+        poll(start, Integer.MAX_VALUE, timeoutMillis, Optional.empty(), failure);
+    }
+
+    /**
+     * Polls until {@code timeoutMillis} have passed since {@code start}, if given. {@code earlierFailure} explains why
+     * the services were not ready if the poller cannot, because it ran out of time before any of its attempts failed.
+     */
+    private void poll(
+            long start,
+            int attempts,
+            OptionalLong timeoutMillis,
+            Optional<StartupHistory> history,
+            Optional<Exception> earlierFailure) {
+        OptionalLong deadline = deadline(start, timeoutMillis);
+        PollableResource target = () -> isReady(PollEndpoint::isDue, deadline);
         try {
-            ResourcePoller.poll(numAttempts, intervalMillis, this);
+            long remainingMillis = timeoutMillis.isPresent()
+                    ? Math.max(0, timeoutMillis.getAsLong() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    : Long.MAX_VALUE;
+            if (history.isPresent()) {
+                ResourcePoller.poll(
+                        attempts, intervalMillis, remainingMillis, target, history.get(), String.join(" ", pollUrls));
+            } else {
+                ResourcePoller.poll(attempts, intervalMillis, remainingMillis, target);
+            }
+        } catch (TimeoutException e) {
+            // the poller only knows the time that was left, the budget and elapsed time are reported here instead
+            Throwable cause = e.getCause() != null ? e.getCause() : earlierFailure.orElse(null);
+            throw notReady(start, timeoutMillis.orElse(attempts * intervalMillis), cause);
         } catch (Exception e) {
-            throw new IllegalStateException(
-                    String.format(
-                            "HTTP services was not ready within %d milliseconds: %s",
-                            numAttempts * intervalMillis,
-                            pollRequests.stream().map(Request::url).collect(Collectors.toList())),
-                    e);
+            throw notReady(start, timeoutMillis.orElse(attempts * intervalMillis), e);
+        }
+    }
+
+    private IllegalStateException notReady(long start, long budgetMillis, Throwable cause) {
+        return new IllegalStateException(
+                String.format(
+                        "HTTP services was not ready within %d milliseconds (gave up after %d milliseconds): %s",
+                        budgetMillis,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                        endpointStatuses()),
+                cause);
+    }
+
+    private static OptionalLong deadline(long startNanos, OptionalLong timeoutMillis) {
+        return timeoutMillis.isPresent()
+                ? OptionalLong.of(startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis.getAsLong()))
+                : OptionalLong.empty();
+    }
+
+    private static final class EndpointGroup {
+        private final List<PollEndpoint> endpoints;
+        private final int quorum;
+
+        private EndpointGroup(List<PollEndpoint> endpoints, int quorum) {
+            this.endpoints = endpoints;
+            this.quorum = quorum;
         }
     }
 
@@ -225,14 +399,7 @@ public final class HttpPollingResource extends ExternalResource implements Polla
 
     public static final class Builder extends HttpPollingBuilder<Builder> {
         public HttpPollingResource build() {
-            return new HttpPollingResource(
-                    sslSocketFactory,
-                    x509TrustManager,
-                    pollRequests,
-                    numAttempts,
-                    intervalMillis,
-                    connectionTimeoutMillis,
-                    readTimeoutMillis);
+            return buildResource();
         }
     }
 }
@@ -0,0 +1,58 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import java.time.Duration;
+
+/**
+ * Checks whether the services of an {@link HttpPollingResource} or {@link HttpPollingExtension} are still ready, for
+ * example after a test has restarted one of them. Shares the HTTP client and endpoint state of its resource, so that
+ * probes reuse its pooled connections, and {@link #isReady(Duration)} can answer from recent probes without any
+ * request at all.
+ */
+public final class HttpReadiness {
+    private final HttpPollingResource resource;
+
+    HttpReadiness(HttpPollingResource resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * Probes every endpoint once, regardless of its polling cadence, and returns whether they are ready without waiting
+     * for them to become ready.
+     */
+    public boolean isReadyNow() {
+        return resource.isReadyNow();
+    }
+
+    /**
+     * Like {@link #isReadyNow()}, but answers from the last result of endpoints that were probed at most
+     * {@code maxAge} ago, by the resource's polling or by earlier checks. Only probes the others.
+     */
+    public boolean isReady(Duration maxAge) {
+        return resource.isReady(maxAge);
+    }
+
+    /**
+     * Probes every endpoint and returns once they are ready, polling them every {@code intervalMillis} of the resource
+     * and on their own cadence after the first probe. Throws an {@link IllegalStateException} if they are not ready
+     * within the given timeout.
+     */
+    public void awaitReady(Duration timeout) {
+        resource.awaitReady(timeout);
+    }
+}
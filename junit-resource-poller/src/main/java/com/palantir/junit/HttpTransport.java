@@ -0,0 +1,145 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.X509TrustManager;
+import okhttp3.Dns;
+
+/**
+ * Sends the GET requests with which {@link HttpPollingResource} polls its URLs. Transports are created through their
+ * {@link Factory} on the first poll, so resources that are never used never create an HTTP client.
+ */
+public interface HttpTransport {
+
+    /**
+     * Prepares GET requests to the given URL with the given timeouts, which override those of the {@link Settings}.
+     * Throws {@link IllegalArgumentException} if the URL is not supported by this transport.
+     */
+    Probe probe(String url, int connectionTimeoutMillis, int readTimeoutMillis);
+
+    /**
+     * The default transport, backed by OkHttp. Also supports {@code unix://<socket path>:<request path>} URLs on Java
+     * 16 or later.
+     */
+    static Factory okHttp() {
+        return new Factory() {
+            @Override
+            public HttpTransport create(Settings settings) {
+                return new OkHttpTransport(settings);
+            }
+
+            @Override
+            public void checkUrl(String url) {
+                OkHttpTransport.checkUrl(url);
+            }
+        };
+    }
+
+    /**
+     * A transport backed by the JDK's {@code java.net.http.HttpClient}, available on Java 11 or later, that sends
+     * requests asynchronously and negotiates HTTP/2. Ignores {@link Settings#dns()}, does not support {@code unix://}
+     * URLs, and configures TLS from {@link Settings#x509TrustManager()} only.
+     */
+    static Factory jdk() {
+        return new Factory() {
+            @Override
+            public HttpTransport create(Settings settings) {
+                return new JdkHttpTransport(settings);
+            }
+
+            @Override
+            public void checkUrl(String url) {
+                JdkHttpTransport.checkUrl(url);
+            }
+        };
+    }
+
+    interface Probe {
+        /**
+         * Sends the request and completes with the response status code once it has been received, or exceptionally
+         * if the request failed or did not complete within {@code callTimeoutMillis}. Cancelling the returned future
+         * cancels the request.
+         */
+        CompletableFuture<Integer> send(long callTimeoutMillis);
+    }
+
+    interface Factory {
+        HttpTransport create(Settings settings);
+
+        /**
+         * Throws {@link IllegalArgumentException} if transports created by this factory cannot poll the given URL.
+         * Called for every poll URL when the resource is built, so that configuration errors are not mistaken for
+         * services that are not ready. Accepts every URL by default.
+         */
+        default void checkUrl(String _url) {}
+    }
+
+    final class Settings {
+        private final int connectionTimeoutMillis;
+        private final int readTimeoutMillis;
+        private final Optional<SSLSocketFactory> sslSocketFactory;
+        private final Optional<X509TrustManager> x509TrustManager;
+        private final Dns dns;
+        private final int maxIdleConnections;
+
+        Settings(
+                int connectionTimeoutMillis,
+                int readTimeoutMillis,
+                Optional<SSLSocketFactory> sslSocketFactory,
+                Optional<X509TrustManager> x509TrustManager,
+                Dns dns,
+                int maxIdleConnections) {
+            this.connectionTimeoutMillis = connectionTimeoutMillis;
+            this.readTimeoutMillis = readTimeoutMillis;
+            this.sslSocketFactory = sslSocketFactory;
+            this.x509TrustManager = x509TrustManager;
+            this.dns = dns;
+            this.maxIdleConnections = maxIdleConnections;
+        }
+
+        public int connectionTimeoutMillis() {
+            return connectionTimeoutMillis;
+        }
+
+        public int readTimeoutMillis() {
+            return readTimeoutMillis;
+        }
+
+        public Optional<SSLSocketFactory> sslSocketFactory() {
+            return sslSocketFactory;
+        }
+
+        public Optional<X509TrustManager> x509TrustManager() {
+            return x509TrustManager;
+        }
+
+        public Dns dns() {
+            return dns;
+        }
+
+        /**
+         * How many idle connections the transport should keep alive, enough for all connections opened by
+         * {@link HttpPollingBuilder#warmConnectionsPerEndpoint}.
+         */
+        public int maxIdleConnections() {
+            return maxIdleConnections;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.palantir.junit;
+
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+
+/**
+ * An {@link HttpTransport} backed by the JDK's {@code java.net.http.HttpClient}, which sends requests asynchronously
+ * and negotiates HTTP/2. The client is only available from Java 11 on, this library is built for Java 8, so it is
+ * reached reflectively; callers check {@link #isSupported()} before creating transports.
+ *
+ * <p>All transports share a pool of daemon threads for completing requests and a timer for their call timeouts.
+ */
+final class JdkHttpTransport implements HttpTransport {
+    private static final String CLIENT_CLASS = "java.net.http.HttpClient";
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(JdkHttpTransport::newThread);
+    private static final ScheduledExecutorService TIMER =
+            Executors.newSingleThreadScheduledExecutor(JdkHttpTransport::newThread);
+
+    private final Settings settings;
+    private final Object client;
+
+    JdkHttpTransport(Settings settings) {
+        this.settings = settings;
+        this.client = newClient(settings, settings.connectionTimeoutMillis());
+    }
+
+    static boolean isSupported() {
+        try {
+            Class.forName(CLIENT_CLASS);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Probe probe(String url, int connectionTimeoutMillis, int _readTimeoutMillis) {
+        URI uri = parse(url);
+        Object endpointClient = connectionTimeoutMillis == settings.connectionTimeoutMillis()
+                ? client
+                : newClient(settings, connectionTimeoutMillis);
+        return callTimeoutMillis -> send(endpointClient, uri, callTimeoutMillis);
+    }
+
+    /** Throws {@link IllegalArgumentException} if the given URL cannot be polled by this transport. */
+    static void checkUrl(String url) {
+        parse(url);
+        if (!isSupported()) {
+            throw new IllegalArgumentException("The JDK transport requires Java 11 or later: " + url);
+        }
+    }
+
+    private static URI parse(String url) {
+        URI parsed;
+        try {
+            parsed = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+        if (!"http".equals(parsed.getScheme()) && !"https".equals(parsed.getScheme())) {
+            throw new IllegalArgumentException("The JDK transport only supports http(s) URLs: " + url);
+        }
+        return parsed;
+    }
+
+    /**
+     * The client has no read timeout of its own, the call timeout of every request (the sum of connection and read
+     * timeout) bounds the time to the response headers as well as the whole call.
+     */
+    private static CompletableFuture<Integer> send(Object client, URI uri, long callTimeoutMillis) {
+        CompletableFuture<?> response = Api.sendAsync(client, uri, Duration.ofMillis(callTimeoutMillis));
+        CompletableFuture<Integer> statusCode = new CompletableFuture<Integer>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                response.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        response.whenComplete((result, error) -> {
+            if (error != null) {
+                statusCode.completeExceptionally(error);
+            } else {
+                statusCode.complete(Api.statusCode(result));
+            }
+        });
+        ScheduledFuture<?> callTimeout = TIMER.schedule(
+                () -> {
+                    if (statusCode.completeExceptionally(new InterruptedIOException("Call timed out"))) {
+                        response.cancel(true);
+                    }
+                },
+                callTimeoutMillis,
+                TimeUnit.MILLISECONDS);
+        statusCode.whenComplete((_statusCode, _error) -> callTimeout.cancel(false));
+        return statusCode;
+    }
+
+    private static Object newClient(Settings settings, int connectionTimeoutMillis) {
+        SSLContext sslContext = null;
+        if (settings.x509TrustManager().isPresent()) {
+            try {
+                sslContext = SSLContext.getInstance("TLS");
+                sslContext.init(null, new TrustManager[] {settings.x509TrustManager().get()}, null);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to set up TLS for the JDK transport", e);
+            }
+        } else if (settings.sslSocketFactory().isPresent()) {
+            // the client negotiates TLS through SSLEngines, which cannot be derived from a socket factory
+            throw new IllegalStateException("The JDK transport requires an x509TrustManager to configure TLS");
+        }
+        return Api.newClient(Duration.ofMillis(connectionTimeoutMillis), sslContext, EXECUTOR);
+    }
+
+    private static Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "junit-resource-poller-http-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /** The reflective view of {@code java.net.http}, resolved once on first use. */
+    private static final class Api {
+        private static final Method NEW_CLIENT_BUILDER;
+        private static final Method CLIENT_CONNECT_TIMEOUT;
+        private static final Method CLIENT_SSL_CONTEXT;
+        private static final Method CLIENT_EXECUTOR;
+        private static final Method CLIENT_BUILD;
+        private static final Method NEW_REQUEST_BUILDER;
+        private static final Method REQUEST_TIMEOUT;
+        private static final Method REQUEST_BUILD;
+        private static final Method DISCARDING;
+        private static final Method SEND_ASYNC;
+        private static final Method STATUS_CODE;
+
+        static {
+            try {
+                Class<?> client = Class.forName(CLIENT_CLASS);
+                Class<?> clientBuilder = Class.forName(CLIENT_CLASS + "$Builder");
+                Class<?> request = Class.forName("java.net.http.HttpRequest");
+                Class<?> requestBuilder = Class.forName("java.net.http.HttpRequest$Builder");
+                Class<?> response = Class.forName("java.net.http.HttpResponse");
+                Class<?> bodyHandler = Class.forName("java.net.http.HttpResponse$BodyHandler");
+                NEW_CLIENT_BUILDER = client.getMethod("newBuilder");
+                CLIENT_CONNECT_TIMEOUT = clientBuilder.getMethod("connectTimeout", Duration.class);
+                CLIENT_SSL_CONTEXT = clientBuilder.getMethod("sslContext", SSLContext.class);
+                CLIENT_EXECUTOR = clientBuilder.getMethod("executor", Executor.class);
+                CLIENT_BUILD = clientBuilder.getMethod("build");
+                NEW_REQUEST_BUILDER = request.getMethod("newBuilder", URI.class);
+                REQUEST_TIMEOUT = requestBuilder.getMethod("timeout", Duration.class);
+                REQUEST_BUILD = requestBuilder.getMethod("build");
+                DISCARDING = Class.forName("java.net.http.HttpResponse$BodyHandlers").getMethod("discarding");
+                SEND_ASYNC = client.getMethod("sendAsync", request, bodyHandler);
+                STATUS_CODE = response.getMethod("statusCode");
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("The JDK transport requires Java 11 or later", e);
+            }
+        }
+
+        private Api() {}
+
+        static Object newClient(Duration connectTimeout, SSLContext sslContext, Executor executor) {
+            Object builder = invoke(NEW_CLIENT_BUILDER, null);
+            invoke(CLIENT_CONNECT_TIMEOUT, builder, connectTimeout);
+            invoke(CLIENT_EXECUTOR, builder, executor);
+            if (sslContext != null) {
+                invoke(CLIENT_SSL_CONTEXT, builder, sslContext);
+            }
+            return invoke(CLIENT_BUILD, builder);
+        }
+
+        static CompletableFuture<?> sendAsync(Object client, URI uri, Duration timeout) {
+            Object builder = invoke(NEW_REQUEST_BUILDER, null, uri);
+            invoke(REQUEST_TIMEOUT, builder, timeout);
+            Object request = invoke(REQUEST_BUILD, builder);
+            return (CompletableFuture<?>) invoke(SEND_ASYNC, client, request, invoke(DISCARDING, null));
+        }
+
+        static int statusCode(Object response) {
+            return (Integer) invoke(STATUS_CODE, response);
+        }
+
+        private static Object invoke(Method method, Object target, Object... args) {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException("Failed to call " + method, e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Failed to call " + method, e);
+            }
+        }
+    }
+}
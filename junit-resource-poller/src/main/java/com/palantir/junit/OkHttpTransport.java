@@ -0,0 +1,157 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.Proxy;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * An {@link HttpTransport} backed by OkHttp.
+ *
+ * <p>Besides {@code http(s)} URLs, {@code unix://<socket path>:<request path>} URLs (for example
+ * {@code unix:///var/run/docker.sock:/_ping}) poll HTTP services listening on a unix domain socket. These require Java
+ * 16 or later.
+ */
+final class OkHttpTransport implements HttpTransport {
+    private static final String UNIX_SCHEME = "unix://";
+
+    private final OkHttpClient client;
+
+    OkHttpTransport(Settings settings) {
+        OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder();
+        clientBuilder.connectTimeout(settings.connectionTimeoutMillis(), TimeUnit.MILLISECONDS);
+        clientBuilder.readTimeout(settings.readTimeoutMillis(), TimeUnit.MILLISECONDS);
+        clientBuilder.dns(settings.dns());
+        // quorum probes run concurrently and would otherwise be throttled when replicas share a host
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(dispatcher.getMaxRequests());
+        clientBuilder.dispatcher(dispatcher);
+        // the default pool keeps at most 5 idle connections, and would evict most of the warmed ones
+        clientBuilder.connectionPool(new ConnectionPool(settings.maxIdleConnections(), 5, TimeUnit.MINUTES));
+        if (settings.sslSocketFactory().isPresent()) {
+            if (settings.x509TrustManager().isPresent()) {
+                clientBuilder.sslSocketFactory(
+                        settings.sslSocketFactory().get(),
+                        settings.x509TrustManager().get());
+            } else {
+                clientBuilder.sslSocketFactory(settings.sslSocketFactory().get());
+            }
+        }
+        this.client = clientBuilder.build();
+    }
+
+    OkHttpClient client() {
+        return client;
+    }
+
+    @Override
+    public Probe probe(String url, int connectionTimeoutMillis, int readTimeoutMillis) {
+        OkHttpClient endpointClient = connectionTimeoutMillis == client.connectTimeoutMillis()
+                        && readTimeoutMillis == client.readTimeoutMillis()
+                ? client
+                : client.newBuilder()
+                        .connectTimeout(connectionTimeoutMillis, TimeUnit.MILLISECONDS)
+                        .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+                        .build();
+        if (!url.startsWith(UNIX_SCHEME)) {
+            Request request = toRequest(url);
+            return callTimeoutMillis -> send(endpointClient.newCall(request), callTimeoutMillis);
+        }
+        checkUnixUrl(url);
+        String location = url.substring(UNIX_SCHEME.length());
+        int separator = location.indexOf(':');
+        String socketPath = separator < 0 ? location : location.substring(0, separator);
+        // the host is never resolved nor connected to, but still ends up in the Host header
+        OkHttpClient socketClient = endpointClient
+                .newBuilder()
+                .socketFactory(new UnixDomainSocketFactory(Paths.get(socketPath)))
+                .dns(_hostname -> Collections.singletonList(InetAddress.getLoopbackAddress()))
+                .proxy(Proxy.NO_PROXY)
+                .build();
+        Request request = toRequest(unixRequestUrl(location));
+        return callTimeoutMillis -> send(socketClient.newCall(request), callTimeoutMillis);
+    }
+
+    /** Throws {@link IllegalArgumentException} if the given URL cannot be polled by this transport. */
+    static void checkUrl(String url) {
+        if (url.startsWith(UNIX_SCHEME)) {
+            checkUnixUrl(url);
+            toRequest(unixRequestUrl(url.substring(UNIX_SCHEME.length())));
+        } else {
+            toRequest(url);
+        }
+    }
+
+    private static void checkUnixUrl(String url) {
+        if (!UnixDomainSockets.isSupported()) {
+            throw new IllegalArgumentException("Polling unix domain sockets requires Java 16 or later: " + url);
+        }
+    }
+
+    private static String unixRequestUrl(String location) {
+        int separator = location.indexOf(':');
+        return "http://localhost" + (separator < 0 ? "/" : location.substring(separator + 1));
+    }
+
+    private static Request toRequest(String url) {
+        try {
+            return new Request.Builder().url(new URL(url)).build();
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static CompletableFuture<Integer> send(Call call, long callTimeoutMillis) {
+        // bounds the whole call, including a response body that trickles in slowly enough to pass the read timeout
+        call.timeout().timeout(callTimeoutMillis, TimeUnit.MILLISECONDS);
+        CompletableFuture<Integer> statusCode = new CompletableFuture<Integer>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                call.cancel();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call _call, Response response) {
+                int code = response.code();
+                response.body().close();
+                statusCode.complete(code);
+            }
+
+            @Override
+            public void onFailure(Call _call, IOException e) {
+                statusCode.completeExceptionally(e);
+            }
+        });
+        return statusCode;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import java.io.InterruptedIOException;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link HttpEndpoint} together with the {@link HttpTransport.Probe} to poll it with, and the state of its polling
+ * cadence.
+ */
+final class PollEndpoint {
+    private final HttpEndpoint endpoint;
+    private final HttpTransport.Probe probe;
+    private final long callTimeoutMillis;
+
+    private boolean probed;
+    private long lastProbeNanos;
+    private long nextProbeNanos;
+    private long currentIntervalMillis;
+    private Optional<Exception> lastResult = Optional.empty();
+    private String lastStatus = "not probed";
+
+    PollEndpoint(HttpEndpoint endpoint, HttpTransport transport, HttpTransport.Settings defaults) {
+        int connectionTimeoutMillis = endpoint.connectionTimeoutMillis().orElse(defaults.connectionTimeoutMillis());
+        int readTimeoutMillis = endpoint.readTimeoutMillis().orElse(defaults.readTimeoutMillis());
+        this.endpoint = endpoint;
+        this.probe = transport.probe(endpoint.url(), connectionTimeoutMillis, readTimeoutMillis);
+        this.callTimeoutMillis = (long) connectionTimeoutMillis + readTimeoutMillis;
+        this.currentIntervalMillis = endpoint.intervalMillis();
+    }
+
+    /**
+     * Sends a request whose call timeout is the sum of the connection and read timeouts, clamped to what is left until
+     * the given deadline.
+     */
+    CompletableFuture<Integer> send(OptionalLong deadlineNanos) {
+        long timeoutMillis = callTimeoutMillis;
+        if (deadlineNanos.isPresent()) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos.getAsLong() - System.nanoTime());
+            if (remainingMillis <= 0) {
+                CompletableFuture<Integer> expired = new CompletableFuture<>();
+                expired.completeExceptionally(new InterruptedIOException("Poll deadline passed"));
+                return expired;
+            }
+            timeoutMillis = Math.min(timeoutMillis, remainingMillis);
+        }
+        return probe.send(timeoutMillis);
+    }
+
+    /** Sends a request and waits for its result, see {@link #record}. */
+    Optional<Exception> await(OptionalLong deadlineNanos) {
+        CompletableFuture<Integer> statusCode = send(deadlineNanos);
+        try {
+            return record(statusCode.get(), null);
+        } catch (InterruptedException e) {
+            statusCode.cancel(true);
+            Thread.currentThread().interrupt();
+            return Optional.of(new RuntimeException("Interrupted while polling resource " + endpoint, e));
+        } catch (ExecutionException e) {
+            return record(null, e.getCause());
+        }
+    }
+
+    /**
+     * Returns {@link Optional#empty()} iff the given outcome of {@link #send} shows that the resource is available,
+     * or an exception explaining why it is not, and schedules the next probe accordingly. Cancelled requests do not
+     * count as probes.
+     */
+    Optional<Exception> record(Integer statusCode, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Optional<Exception> result;
+        if (cause != null) {
+            result = Optional.of(new RuntimeException("HTTP connection error for resource " + endpoint, cause));
+        } else if (statusCode < 200 || statusCode >= 300) {
+            result = Optional.of(new RuntimeException(
+                    String.format("Received non-success error code %s from resource %s", statusCode, endpoint)));
+        } else {
+            result = Optional.empty();
+        }
+        if (!(cause instanceof CancellationException)) {
+            schedule(result, cause != null ? cause.toString() : "HTTP " + statusCode);
+        }
+        return result;
+    }
+
+    synchronized boolean isDue() {
+        return !probed || System.nanoTime() - nextProbeNanos >= 0;
+    }
+
+    /** Whether the last result is at most {@code maxAgeNanos} old. */
+    synchronized boolean isFresh(long maxAgeNanos) {
+        return probed && System.nanoTime() - lastProbeNanos <= maxAgeNanos;
+    }
+
+    /** Whether the endpoint was probed since it was last {@link #reset} and was ready then. */
+    synchronized boolean wasReady() {
+        return probed && !lastResult.isPresent();
+    }
+
+    synchronized Optional<Exception> lastResult() {
+        return lastResult;
+    }
+
+    /** A short description of the outcome of the last probe, for error messages. */
+    synchronized String lastStatus() {
+        return lastStatus;
+    }
+
+    synchronized void reset() {
+        probed = false;
+        lastStatus = "not probed";
+        currentIntervalMillis = endpoint.intervalMillis();
+    }
+
+    private synchronized void schedule(Optional<Exception> result, String status) {
+        if (!result.isPresent()) {
+            currentIntervalMillis = endpoint.intervalMillis();
+        } else if (probed && lastResult.isPresent()) {
+            currentIntervalMillis = (long) Math.min(
+                    (double) endpoint.maxIntervalMillis(), currentIntervalMillis * endpoint.backoffMultiplier());
+        }
+        probed = true;
+        lastResult = result;
+        lastStatus = status;
+        lastProbeNanos = System.nanoTime();
+        nextProbeNanos = lastProbeNanos + TimeUnit.MILLISECONDS.toNanos(currentIntervalMillis);
+    }
+
+    @Override
+    public String toString() {
+        return endpoint.url();
+    }
+}
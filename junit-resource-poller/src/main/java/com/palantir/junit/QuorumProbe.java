@@ -0,0 +1,101 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+
+/**
+ * Probes a group of endpoints concurrently and decides as soon as {@code quorum} of them succeeded, or as soon as so
+ * many failed that {@code quorum} can no longer be reached. Requests that are still running at that point are
+ * cancelled.
+ */
+final class QuorumProbe {
+    private final int quorum;
+    private final int total;
+    private final List<Exception> failures = new ArrayList<>();
+    private final CompletableFuture<Optional<Exception>> outcome = new CompletableFuture<>();
+    private int successes;
+
+    private QuorumProbe(int quorum, int total) {
+        this.quorum = quorum;
+        this.total = total;
+    }
+
+    /** Probes the endpoints that {@code needsProbe}, and counts the last result of the others. */
+    static Optional<Exception> await(
+            List<PollEndpoint> endpoints, int quorum, Predicate<PollEndpoint> needsProbe, OptionalLong deadlineNanos) {
+        QuorumProbe probe = new QuorumProbe(quorum, endpoints.size());
+        List<CompletableFuture<Integer>> requests = new ArrayList<>(endpoints.size());
+        try {
+            for (PollEndpoint endpoint : endpoints) {
+                if (probe.outcome.isDone()) {
+                    break;
+                }
+                if (!needsProbe.test(endpoint)) {
+                    probe.record(endpoint.lastResult());
+                    continue;
+                }
+                CompletableFuture<Integer> request = endpoint.send(deadlineNanos);
+                requests.add(request);
+                request.whenComplete((statusCode, error) -> probe.record(endpoint.record(statusCode, error)));
+            }
+            return probe.outcome.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.of(new RuntimeException("Interrupted while waiting for quorum", e));
+        } catch (ExecutionException e) {
+            return Optional.of(new RuntimeException("Failed to wait for quorum", e.getCause()));
+        } finally {
+            requests.forEach(request -> request.cancel(true));
+        }
+    }
+
+    private void record(Optional<Exception> result) {
+        if (result.isPresent()) {
+            recordFailure(result.get());
+        } else {
+            recordSuccess();
+        }
+    }
+
+    private synchronized void recordSuccess() {
+        successes++;
+        if (successes >= quorum) {
+            outcome.complete(Optional.empty());
+        }
+    }
+
+    private synchronized void recordFailure(Exception failure) {
+        // requests cancelled once the outcome is decided report failures too, those are not interesting
+        if (outcome.isDone()) {
+            return;
+        }
+        failures.add(failure);
+        if (total - failures.size() < quorum) {
+            RuntimeException exception = new RuntimeException(String.format(
+                    "Quorum of %d out of %d resources can no longer be reached", quorum, total));
+            failures.forEach(exception::addSuppressed);
+            outcome.complete(Optional.of(exception));
+        }
+    }
+}
@@ -17,9 +17,12 @@
 package com.palantir.junit;
 
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public final class ResourcePoller {
 
@@ -31,18 +34,192 @@ public final class ResourcePoller {
      * {@link PollableResource#isReady()} otherwise.
      */
     public static void poll(int numAttempts, long intervalMillis, final PollableResource target) throws Exception {
+        poll(new FixedSchedule(numAttempts, intervalMillis), Long.MAX_VALUE, target);
+    }
+
+    /**
+     * Like {@link #poll(int, long, PollableResource)}, but gives up once {@code timeoutMillis} have passed since
+     * polling started, interrupting an attempt that is still in progress at that point. If the next attempt is due
+     * after the deadline, a last attempt is made up to {@code intervalMillis} before it instead. Throws a
+     * {@link TimeoutException} caused by the last exception returned by {@link PollableResource#isReady()} if the
+     * deadline passes.
+     */
+    public static void poll(int numAttempts, long intervalMillis, long timeoutMillis, PollableResource target)
+            throws Exception {
+        poll(new FixedSchedule(numAttempts, intervalMillis), timeoutMillis, target);
+    }
+
+    /**
+     * Like {@link #poll(int, long, PollableResource)}, but records how long {@code resources} took to become ready in
+     * the given history, unless they were ready on the first attempt. If the history knows how long they took before,
+     * polling makes one attempt after {@code intervalMillis} in case they are already up, then holds back until shortly
+     * before that time, polls every {@code intervalMillis / 2} milliseconds around it and every {@code intervalMillis}
+     * milliseconds after it, for at most {@code numAttempts * intervalMillis} milliseconds overall.
+     */
+    public static void poll(
+            int numAttempts,
+            long intervalMillis,
+            PollableResource target,
+            StartupHistory history,
+            String resources)
+            throws Exception {
+        poll(numAttempts, intervalMillis, Long.MAX_VALUE, target, history, resources);
+    }
+
+    /**
+     * Combines {@link #poll(int, long, long, PollableResource)} and
+     * {@link #poll(int, long, PollableResource, StartupHistory, String)}. Polling never holds back beyond
+     * {@code timeoutMillis}, so that a prediction that is too pessimistic cannot use up the whole timeout.
+     */
+    public static void poll(
+            int numAttempts,
+            long intervalMillis,
+            long timeoutMillis,
+            PollableResource target,
+            StartupHistory history,
+            String resources)
+            throws Exception {
+        OptionalLong expectedReadyMillis = history.expectedReadyMillis(resources);
+        Schedule schedule = expectedReadyMillis.isPresent()
+                ? new PredictiveSchedule(
+                        Math.min(numAttempts * intervalMillis, timeoutMillis),
+                        intervalMillis,
+                        expectedReadyMillis.getAsLong())
+                : new FixedSchedule(numAttempts, intervalMillis);
+        long start = System.nanoTime();
+        int attempts = poll(schedule, timeoutMillis, target);
+        // resources that were up already say nothing about how long they take to start
+        if (attempts > 1) {
+            history.record(resources, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /** Returns the number of attempts it took until the target was ready. */
+    private static int poll(Schedule schedule, long timeoutMillis, PollableResource target) throws Exception {
         ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+        long start = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
 
         Optional<Exception> lastException = Optional.empty();
-        for (int i = 0; i < numAttempts; ++i) {
-            lastException = scheduler
-                    .schedule(target::isReady, intervalMillis, TimeUnit.MILLISECONDS)
-                    .get();
-            if (!lastException.isPresent()) {
-                return;
+        int attempts = 0;
+        try {
+            OptionalLong delayMillis;
+            boolean lastAttempt = false;
+            while (!lastAttempt && (delayMillis = schedule.nextDelayMillis()).isPresent()) {
+                long remainingNanos = timeoutNanos - (System.nanoTime() - start);
+                if (remainingNanos <= 0) {
+                    throw timeout(timeoutMillis, lastException);
+                }
+                long delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMillis.getAsLong());
+                if (delayNanos >= remainingNanos) {
+                    // rather than giving up early, make a last attempt that still has some time to complete
+                    delayNanos = Math.max(0, remainingNanos - TimeUnit.MILLISECONDS.toNanos(schedule.intervalMillis()));
+                    lastAttempt = true;
+                }
+                ScheduledFuture<Optional<Exception>> attempt =
+                        scheduler.schedule(target::isReady, delayNanos, TimeUnit.NANOSECONDS);
+                attempts++;
+                try {
+                    lastException = attempt.get(remainingNanos, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    attempt.cancel(true);
+                    throw timeout(timeoutMillis, lastException);
+                }
+                if (!lastException.isPresent()) {
+                    return attempts;
+                }
+            }
+            if (lastAttempt) {
+                throw timeout(timeoutMillis, lastException);
             }
+        } finally {
+            scheduler.shutdownNow();
         }
 
         throw lastException.orElseGet(() -> new IllegalStateException("Internal error (numAttempts == 0?)"));
     }
+
+    private static TimeoutException timeout(long timeoutMillis, Optional<Exception> lastException) {
+        TimeoutException exception =
+                new TimeoutException(String.format("Resource was not ready within %d milliseconds", timeoutMillis));
+        lastException.ifPresent(exception::initCause);
+        return exception;
+    }
+
+    private interface Schedule {
+        /** The delay before the next attempt, or empty if there are no attempts left. */
+        OptionalLong nextDelayMillis();
+
+        /** The regular interval between attempts. */
+        long intervalMillis();
+    }
+
+    private static final class FixedSchedule implements Schedule {
+        private final long intervalMillis;
+        private int remainingAttempts;
+
+        private FixedSchedule(int numAttempts, long intervalMillis) {
+            this.remainingAttempts = numAttempts;
+            this.intervalMillis = intervalMillis;
+        }
+
+        @Override
+        public long intervalMillis() {
+            return intervalMillis;
+        }
+
+        @Override
+        public OptionalLong nextDelayMillis() {
+            if (remainingAttempts <= 0) {
+                return OptionalLong.empty();
+            }
+            remainingAttempts--;
+            return OptionalLong.of(intervalMillis);
+        }
+    }
+
+    /**
+     * Probes once in case the resource is already up, skips the rest of the time in which it is not expected to be
+     * ready yet, probes densely within a margin of the expected ready time, and falls back to regular polling after
+     * it. Delays are planned on an offset from the start
+     * of polling that ignores the time spent in probes, like the budget of {@link FixedSchedule}.
+     */
+    private static final class PredictiveSchedule implements Schedule {
+        private final long budgetMillis;
+        private final long intervalMillis;
+        private final long denseIntervalMillis;
+        private final long denseUntilMillis;
+        private final long holdBackUntilMillis;
+        private long nextOffsetMillis;
+        private long lastOffsetMillis;
+
+        private PredictiveSchedule(long budgetMillis, long intervalMillis, long expectedReadyMillis) {
+            long marginMillis = Math.max(2 * intervalMillis, expectedReadyMillis / 10);
+            this.budgetMillis = budgetMillis;
+            this.intervalMillis = intervalMillis;
+            this.denseIntervalMillis = Math.max(1, intervalMillis / 2);
+            this.denseUntilMillis = expectedReadyMillis + marginMillis;
+            // never hold back for so long that not even a single attempt fits into the budget
+            this.holdBackUntilMillis = Math.min(expectedReadyMillis - marginMillis, budgetMillis);
+            this.nextOffsetMillis = intervalMillis;
+        }
+
+        @Override
+        public long intervalMillis() {
+            return intervalMillis;
+        }
+
+        @Override
+        public OptionalLong nextDelayMillis() {
+            if (nextOffsetMillis > budgetMillis) {
+                return OptionalLong.empty();
+            }
+            long delayMillis = nextOffsetMillis - lastOffsetMillis;
+            lastOffsetMillis = nextOffsetMillis;
+            nextOffsetMillis += nextOffsetMillis < denseUntilMillis ? denseIntervalMillis : intervalMillis;
+            // only the first attempt comes before the hold-back period
+            nextOffsetMillis = Math.max(nextOffsetMillis, holdBackUntilMillis);
+            return OptionalLong.of(delayMillis);
+        }
+    }
 }
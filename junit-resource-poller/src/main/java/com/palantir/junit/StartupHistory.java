@@ -0,0 +1,116 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers how long resources took to become ready in previous runs, keyed by an identifier of the probed resources,
+ * so that {@link ResourcePoller} can hold back until shortly before they are expected to be ready. Records older than
+ * {@code maxAgeMillis} are ignored.
+ *
+ * <p>The history is a small properties file, typically under the build directory. Failing to read or write it only
+ * disables the prediction.
+ */
+public final class StartupHistory {
+    private static final Logger log = LoggerFactory.getLogger(StartupHistory.class);
+    private static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private final Path file;
+    private final long maxAgeMillis;
+
+    private StartupHistory(Path file, long maxAgeMillis) {
+        this.file = file;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /** A history at {@code build/junit-resource-poller/startup-history.properties} in the working directory. */
+    public static StartupHistory inBuildDirectory() {
+        return of(Paths.get("build", "junit-resource-poller", "startup-history.properties"));
+    }
+
+    public static StartupHistory of(Path file) {
+        return of(file, DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    public static StartupHistory of(Path file, long maxAgeMillis) {
+        return new StartupHistory(file, maxAgeMillis);
+    }
+
+    /** The time the given resources took to become ready when last recorded, unless that record is too old. */
+    public synchronized OptionalLong expectedReadyMillis(String resources) {
+        String record = load().getProperty(resources);
+        if (record == null) {
+            return OptionalLong.empty();
+        }
+        try {
+            String[] parts = record.split(",", 2);
+            long readyMillis = Long.parseLong(parts[0]);
+            long recordedAt = Long.parseLong(parts[1]);
+            return System.currentTimeMillis() - recordedAt <= maxAgeMillis
+                    ? OptionalLong.of(readyMillis)
+                    : OptionalLong.empty();
+        } catch (RuntimeException e) {
+            log.debug("Ignoring malformed startup history record {}", record, e);
+            return OptionalLong.empty();
+        }
+    }
+
+    public synchronized void record(String resources, long readyMillis) {
+        Properties properties = load();
+        properties.setProperty(resources, readyMillis + "," + System.currentTimeMillis());
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            // write to a temporary file first so that concurrent readers never see a partially written history
+            Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream output = Files.newOutputStream(temporary)) {
+                    properties.store(output, "junit-resource-poller startup history");
+                }
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to record startup history in {}", file, e);
+        }
+    }
+
+    private Properties load() {
+        Properties properties = new Properties();
+        if (Files.exists(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                properties.load(input);
+            } catch (IOException e) {
+                log.warn("Failed to read startup history from {}", file, e);
+            }
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import javax.net.SocketFactory;
+
+/**
+ * Creates sockets that ignore the address they are asked to connect to and talk to the unix domain socket at
+ * {@code path} instead, so that OkHttp can speak HTTP to daemons that only listen on a local socket.
+ */
+final class UnixDomainSocketFactory extends SocketFactory {
+    private final Path path;
+
+    UnixDomainSocketFactory(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public Socket createSocket() {
+        return new UnixDomainSocket(path);
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        return connected(new InetSocketAddress(host, port));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress _localHost, int _localPort) throws IOException {
+        return connected(new InetSocketAddress(host, port));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+        return connected(new InetSocketAddress(host, port));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress _localAddress, int _localPort)
+            throws IOException {
+        return connected(new InetSocketAddress(address, port));
+    }
+
+    private Socket connected(SocketAddress address) throws IOException {
+        Socket socket = createSocket();
+        socket.connect(address);
+        return socket;
+    }
+
+    /**
+     * Read timeouts are not enforced by the socket itself: OkHttp closes sockets whose reads exceed the read timeout,
+     * which unblocks the pending channel read.
+     */
+    private static final class UnixDomainSocket extends Socket {
+        private final Path path;
+        private volatile SocketChannel channel;
+        private volatile boolean inputShutdown;
+        private volatile boolean outputShutdown;
+        private int soTimeout;
+
+        private UnixDomainSocket(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        public void connect(SocketAddress _endpoint, int _timeout) throws IOException {
+            if (channel != null) {
+                throw new SocketException("Already connected");
+            }
+            channel = UnixDomainSockets.connect(path);
+        }
+
+        @Override
+        public void connect(SocketAddress endpoint) throws IOException {
+            connect(endpoint, 0);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Channels.newInputStream(connectedChannel());
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            return Channels.newOutputStream(connectedChannel());
+        }
+
+        @Override
+        public synchronized void setSoTimeout(int timeout) {
+            this.soTimeout = timeout;
+        }
+
+        @Override
+        public synchronized int getSoTimeout() {
+            return soTimeout;
+        }
+
+        @Override
+        public void shutdownInput() throws IOException {
+            connectedChannel().shutdownInput();
+            inputShutdown = true;
+        }
+
+        @Override
+        public void shutdownOutput() throws IOException {
+            connectedChannel().shutdownOutput();
+            outputShutdown = true;
+        }
+
+        @Override
+        public boolean isInputShutdown() {
+            return inputShutdown;
+        }
+
+        @Override
+        public boolean isOutputShutdown() {
+            return outputShutdown;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return channel != null;
+        }
+
+        @Override
+        public boolean isBound() {
+            return channel != null;
+        }
+
+        @Override
+        public boolean isClosed() {
+            SocketChannel current = channel;
+            return current != null && !current.isOpen();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            SocketChannel current = channel;
+            if (current != null) {
+                current.close();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "UnixDomainSocket[" + path + "]";
+        }
+
+        private SocketChannel connectedChannel() throws SocketException {
+            SocketChannel current = channel;
+            if (current == null) {
+                throw new SocketException("Not connected");
+            }
+            if (!current.isOpen()) {
+                throw new SocketException("Socket is closed");
+            }
+            return current;
+        }
+    }
+}
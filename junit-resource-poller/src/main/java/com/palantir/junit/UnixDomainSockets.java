@@ -0,0 +1,80 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Unix domain socket channels are only available from Java 16 on, this library is built for Java 8. Callers check
+ * {@link #isSupported()} before opening channels.
+ */
+final class UnixDomainSockets {
+    private static final String ADDRESS_CLASS = "java.net.UnixDomainSocketAddress";
+
+    private UnixDomainSockets() {}
+
+    static boolean isSupported() {
+        try {
+            Class.forName(ADDRESS_CLASS);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    static ProtocolFamily protocolFamily() {
+        return StandardProtocolFamily.valueOf("UNIX");
+    }
+
+    static SocketAddress address(Path path) {
+        try {
+            return (SocketAddress) Class.forName(ADDRESS_CLASS)
+                    .getMethod("of", Path.class)
+                    .invoke(null, path);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unix domain sockets require Java 16 or later", e);
+        }
+    }
+
+    static SocketChannel connect(Path path) throws IOException {
+        SocketChannel channel;
+        try {
+            channel = (SocketChannel)
+                    SocketChannel.class.getMethod("open", ProtocolFamily.class).invoke(null, protocolFamily());
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to open unix domain socket " + path, e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unix domain sockets require Java 16 or later", e);
+        }
+        try {
+            channel.connect(address(path));
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.base.Stopwatch;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.Dns;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class CachingDnsTest {
+
+    @Rule
+    public MockWebServer server = new MockWebServer();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final CountDownLatch slowLookups = new CountDownLatch(1);
+
+    @After
+    public void after() {
+        slowLookups.countDown();
+    }
+
+    @Test
+    public void test_cachesSuccessfulLookupsForPositiveTtl() throws UnknownHostException {
+        CachingDns dns = cachingDns(resolvingStub()).positiveTtlMillis(1000).build();
+
+        assertThat(dns.lookup("service")).containsExactly(InetAddress.getLoopbackAddress());
+        assertThat(dns.lookup("service")).containsExactly(InetAddress.getLoopbackAddress());
+        assertThat(lookups).hasValue(1);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        dns.lookup("service");
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    public void test_cachesFailedLookupsForNegativeTtl() {
+        CachingDns dns = cachingDns(failingStub()).negativeTtlMillis(100).build();
+
+        assertThatThrownBy(() -> dns.lookup("service")).isInstanceOf(UnknownHostException.class);
+        assertThatThrownBy(() -> dns.lookup("service")).isInstanceOf(UnknownHostException.class);
+        assertThat(lookups).hasValue(1);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThatThrownBy(() -> dns.lookup("service")).isInstanceOf(UnknownHostException.class);
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    public void test_boundsLookupLatency() {
+        CachingDns dns = cachingDns(slowStub()).lookupTimeoutMillis(100).build();
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        assertThatThrownBy(() -> dns.lookup("service"))
+                .isInstanceOf(UnknownHostException.class)
+                .hasMessage("Lookup of service did not complete within 100 milliseconds");
+        assertThatThrownBy(() -> dns.lookup("service")).isInstanceOf(UnknownHostException.class);
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).isLessThan(1000L);
+
+        // the second attempt waits for the outstanding lookup rather than starting another one
+        assertThat(lookups).hasValue(1);
+    }
+
+    @Test
+    public void test_sharesLookupsAcrossResources() {
+        CachingDns dns = cachingDns(resolvingStub()).build();
+        String url = "http://service:" + server.getPort();
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server.enqueue(new MockResponse().setResponseCode(200));
+
+        HttpPollingResource.builder().pollUrls(Collections.singletonList(url)).numAttempts(1).dns(dns).build().before();
+        HttpPollingResource.builder().pollUrls(Collections.singletonList(url)).numAttempts(1).dns(dns).build().before();
+
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        assertThat(lookups).hasValue(1);
+    }
+
+    private CachingDns.Builder cachingDns(Dns delegate) {
+        return CachingDns.builder().delegate(delegate).nanoClock(clock::get);
+    }
+
+    private Dns resolvingStub() {
+        return _hostname -> {
+            lookups.incrementAndGet();
+            return Collections.singletonList(InetAddress.getLoopbackAddress());
+        };
+    }
+
+    private Dns failingStub() {
+        return hostname -> {
+            lookups.incrementAndGet();
+            throw new UnknownHostException(hostname);
+        };
+    }
+
+    private Dns slowStub() {
+        return _hostname -> {
+            lookups.incrementAndGet();
+            try {
+                slowLookups.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Collections.<InetAddress>emptyList();
+        };
+    }
+}
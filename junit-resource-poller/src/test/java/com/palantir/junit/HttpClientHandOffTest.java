@@ -0,0 +1,133 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class HttpClientHandOffTest {
+    private static final char[] PASSWORD = "password".toCharArray();
+
+    @Rule
+    public MockWebServer server = new MockWebServer();
+
+    @Rule
+    public MockWebServer server2 = new MockWebServer();
+
+    private SSLContext clientContext;
+    private X509TrustManager trustManager;
+
+    @Before
+    public void before() throws IOException, GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream stream = getClass().getResourceAsStream("/localhost.p12")) {
+            keyStore.load(stream, PASSWORD);
+        }
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keyStore, PASSWORD);
+        TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(keyStore);
+        trustManager = (X509TrustManager) trustManagers.getTrustManagers()[0];
+
+        SSLContext serverContext = SSLContext.getInstance("TLS");
+        serverContext.init(keyManagers.getKeyManagers(), null, null);
+        clientContext = SSLContext.getInstance("TLS");
+        clientContext.init(null, trustManagers.getTrustManagers(), null);
+
+        for (MockWebServer each : ImmutableList.of(server, server2)) {
+            each.useHttps(serverContext.getSocketFactory(), false);
+            // with HTTP/2 all requests would be multiplexed over a single connection
+            each.setProtocols(Collections.singletonList(Protocol.HTTP_1_1));
+        }
+    }
+
+    @Test
+    public void test_handsOffWarmedConnections() throws IOException, InterruptedException {
+        HttpPollingResource poller = HttpPollingResource.builder()
+                .pollUrls(ImmutableList.of(server.url("/").toString(), server2.url("/").toString()))
+                .sslSocketFactory(clientContext.getSocketFactory())
+                .x509TrustManager(trustManager)
+                .numAttempts(5)
+                .warmConnectionsPerEndpoint(3)
+                .build();
+        for (int i = 0; i < 5; i++) {
+            // slow enough that the warming requests need a connection each
+            server.enqueue(new MockResponse().setResponseCode(200).setHeadersDelay(200, TimeUnit.MILLISECONDS));
+            server2.enqueue(new MockResponse().setResponseCode(200).setHeadersDelay(200, TimeUnit.MILLISECONDS));
+        }
+
+        poller.before();
+        // more than the 5 idle connections that OkHttp keeps by default
+        assertThat(poller.httpClient().connectionPool().idleConnectionCount()).isEqualTo(6);
+        // the poll request, plus one warming request on its connection and two on new connections
+        assertThat(takeSequenceNumbers(server, 4)).containsExactlyInAnyOrder(0, 1, 0, 0);
+        assertThat(takeSequenceNumbers(server2, 4)).containsExactlyInAnyOrder(0, 1, 0, 0);
+
+        OkHttpClient testClient = poller.httpClient().newBuilder().readTimeout(5, TimeUnit.SECONDS).build();
+        try (Response response = testClient.newCall(new Request.Builder().url(server.url("/")).build()).execute()) {
+            assertThat(response.code()).isEqualTo(200);
+        }
+        // the first request of the test neither connects nor shakes hands again
+        assertThat(server.takeRequest().getSequenceNumber()).isPositive();
+        assertThat(testClient.connectionPool().connectionCount()).isEqualTo(6);
+    }
+
+    @Test
+    public void test_httpClientRequiresOkHttpTransport() {
+        Assume.assumeTrue("The JDK transport requires Java 11 or later", JdkHttpTransport.isSupported());
+        HttpPollingResource poller = HttpPollingResource.builder()
+                .pollUrls(ImmutableList.of(server.url("/").toString()))
+                .transport(HttpTransport.jdk())
+                .build();
+
+        assertThatThrownBy(poller::httpClient)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The HTTP client is only available with HttpTransport.okHttp()");
+    }
+
+    private static List<Integer> takeSequenceNumbers(MockWebServer mockServer, int count) throws InterruptedException {
+        List<Integer> sequenceNumbers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            sequenceNumbers.add(mockServer.takeRequest().getSequenceNumber());
+        }
+        return sequenceNumbers;
+    }
+}
@@ -17,20 +17,35 @@
 package com.palantir.junit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
 import org.assertj.core.api.HamcrestCondition;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.jupiter.api.extension.ParameterContext;
 import org.junit.rules.ExpectedException;
 
 public final class HttpPollingResourceTest {
@@ -119,4 +134,361 @@ public final class HttpPollingResourceTest {
         assertThat(server.getRequestCount()).isEqualTo(2);
         assertThat(server2.getRequestCount()).isEqualTo(1);
     }
+
+    @Test
+    public void test_quorumDoesNotWaitForSlowestReplica() throws IOException {
+        MockWebServer server2 = new MockWebServer();
+        MockWebServer server3 = new MockWebServer();
+        server2.start();
+        server3.start();
+        HttpPollingResource quorumPoller = HttpPollingResource.builder()
+                .pollUrls(ImmutableList.of(
+                        "http://localhost:" + server.getPort(),
+                        "http://localhost:" + server2.getPort(),
+                        "http://localhost:" + server3.getPort()))
+                .quorum(2)
+                .numAttempts(1)
+                .readTimeoutMillis(5000)
+                .build();
+
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server2.enqueue(new MockResponse().setResponseCode(200));
+        server3.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        quorumPoller.before();
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).is(new HamcrestCondition<>(lessThan(2000L)));
+    }
+
+    @Test
+    public void test_warmingSkipsReplicasThatAreNotReady() throws IOException {
+        MockWebServer server2 = new MockWebServer();
+        MockWebServer server3 = new MockWebServer();
+        server2.start();
+        server3.start();
+        HttpPollingResource quorumPoller = HttpPollingResource.builder()
+                .pollUrls(ImmutableList.of(
+                        "http://localhost:" + server.getPort(),
+                        "http://localhost:" + server2.getPort(),
+                        "http://localhost:" + server3.getPort()))
+                .quorum(2)
+                .numAttempts(1)
+                .readTimeoutMillis(5000)
+                .warmConnectionsPerEndpoint(2)
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(200));
+            server2.enqueue(new MockResponse().setResponseCode(200));
+        }
+        server3.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        quorumPoller.before();
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).is(new HamcrestCondition<>(lessThan(2000L)));
+        assertThat(server.getRequestCount()).isEqualTo(3);
+        assertThat(server2.getRequestCount()).isEqualTo(3);
+        assertThat(server3.getRequestCount()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void test_quorumFailsAsSoonAsItCannotBeReached() throws IOException {
+        MockWebServer server2 = new MockWebServer();
+        MockWebServer server3 = new MockWebServer();
+        server2.start();
+        server3.start();
+        HttpPollingResource quorumPoller = HttpPollingResource.builder()
+                .pollUrls(ImmutableList.of(
+                        "http://localhost:" + server.getPort(),
+                        "http://localhost:" + server2.getPort(),
+                        "http://localhost:" + server3.getPort()))
+                .quorum(2)
+                .numAttempts(1)
+                .readTimeoutMillis(5000)
+                .build();
+
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server2.enqueue(new MockResponse().setResponseCode(500));
+        server3.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        assertThatThrownBy(quorumPoller::before)
+                .isInstanceOf(IllegalStateException.class)
+                .satisfies(e -> assertThat(e.getCause())
+                        .hasMessage("Quorum of 2 out of 3 resources can no longer be reached"));
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).is(new HamcrestCondition<>(lessThan(2000L)));
+    }
+
+    @Test
+    public void test_quorumGroupsAreRequiredInAdditionToPollUrls() throws IOException {
+        MockWebServer server2 = new MockWebServer();
+        MockWebServer server3 = new MockWebServer();
+        server2.start();
+        server3.start();
+        HttpPollingResource groupPoller = HttpPollingResource.builder()
+                .pollUrls(ImmutableList.of("http://localhost:" + server.getPort()))
+                .pollUrlQuorum(
+                        ImmutableList.of(
+                                "http://localhost:" + server2.getPort(), "http://localhost:" + server3.getPort()),
+                        1)
+                .numAttempts(2)
+                .build();
+
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server2.enqueue(new MockResponse().setResponseCode(500));
+        server3.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server2.enqueue(new MockResponse().setResponseCode(500));
+        server3.enqueue(new MockResponse().setResponseCode(200));
+
+        groupPoller.before();
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        assertThat(server3.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_jdkTransportPollsUntilAvailable() {
+        Assume.assumeTrue("The JDK transport requires Java 11 or later", JdkHttpTransport.isSupported());
+        HttpPollingResource jdkPoller = HttpPollingResource.builder()
+                .pollUrls(ImmutableList.of("http://localhost:" + server.getPort()))
+                .numAttempts(3)
+                .transport(HttpTransport.jdk())
+                .build();
+
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setResponseCode(200));
+
+        jdkPoller.before();
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_jdkTransportsShareThreads() {
+        Assume.assumeTrue("The JDK transport requires Java 11 or later", JdkHttpTransport.isSupported());
+        // earlier tests may have left idle threads in the shared pool
+        long threadsBefore = countTransportThreads();
+        for (int i = 0; i < 20; i++) {
+            server.enqueue(new MockResponse().setResponseCode(200));
+            HttpPollingResource.builder()
+                    .pollUrls(ImmutableList.of("http://localhost:" + server.getPort()))
+                    .numAttempts(1)
+                    .transport(HttpTransport.jdk())
+                    .build()
+                    .before();
+        }
+
+        assertThat(countTransportThreads() - threadsBefore).isLessThan(5L);
+    }
+
+    @Test
+    public void test_transportIsCreatedOnFirstPoll() {
+        AtomicInteger transports = new AtomicInteger();
+        HttpPollingResource lazyPoller = HttpPollingResource.builder()
+                .pollUrls(ImmutableList.of("http://localhost:" + server.getPort()))
+                .numAttempts(2)
+                .transport(settings -> {
+                    transports.incrementAndGet();
+                    return HttpTransport.okHttp().create(settings);
+                })
+                .build();
+        assertThat(transports).hasValue(0);
+
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setResponseCode(200));
+
+        lazyPoller.before();
+        assertThat(transports).hasValue(1);
+    }
+
+    @Test
+    public void test_rejectsUnsupportedUrlsWhenBuilt() {
+        assertThatThrownBy(() -> HttpPollingResource.builder()
+                        .pollUrls(ImmutableList.of("localhost:" + server.getPort()))
+                        .build())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HttpPollingResource.builder()
+                        .pollUrls(ImmutableList.of("ftp://localhost:" + server.getPort()))
+                        .transport(HttpTransport.jdk())
+                        .build())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The JDK transport only supports http(s) URLs: ftp://localhost:" + server.getPort());
+    }
+
+    @Test
+    public void test_probesHigherPriorityEndpointsFirst() throws IOException {
+        MockWebServer server2 = new MockWebServer();
+        server2.start();
+        HttpPollingResource priorityPoller = HttpPollingResource.builder()
+                .pollEndpoints(ImmutableList.of(
+                        HttpEndpoint.of("http://localhost:" + server.getPort()),
+                        HttpEndpoint.builder()
+                                .url("http://localhost:" + server2.getPort())
+                                .priority(1)
+                                .build()))
+                .numAttempts(2)
+                .build();
+
+        server2.enqueue(new MockResponse().setResponseCode(500));
+        // server won't get called in the first iteration
+        server2.enqueue(new MockResponse().setResponseCode(200));
+        server.enqueue(new MockResponse().setResponseCode(200));
+
+        priorityPoller.before();
+        assertThat(server.getRequestCount()).isEqualTo(1);
+        assertThat(server2.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_probesEndpointsOnTheirOwnCadence() {
+        HttpPollingResource cadencePoller = HttpPollingResource.builder()
+                .pollEndpoints(ImmutableList.of(HttpEndpoint.builder()
+                        .url("http://localhost:" + server.getPort())
+                        .intervalMillis(150)
+                        .backoffMultiplier(2)
+                        .build()))
+                .numAttempts(8)
+                .build();
+
+        for (int i = 0; i < 8; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+
+        assertThatThrownBy(cadencePoller::before).isInstanceOf(IllegalStateException.class);
+        // probed after 100, 300 and 600 milliseconds rather than in each of the 8 attempts
+        assertThat(server.getRequestCount()).isBetween(2, 4);
+    }
+
+    @Test
+    public void test_callTimeoutBoundsTricklingResponses() throws IOException {
+        try (ServerSocket trickler = new ServerSocket(0)) {
+            Thread thread = new Thread(() -> trickleHeaders(trickler));
+            thread.setDaemon(true);
+            thread.start();
+            HttpPollingResource tricklePoller = HttpPollingResource.builder()
+                    .pollUrls(ImmutableList.of("http://localhost:" + trickler.getLocalPort()))
+                    .numAttempts(1)
+                    .build();
+
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            assertThatThrownBy(tricklePoller::before).isInstanceOf(IllegalStateException.class);
+            // every header arrives within the read timeout, but the call times out after connect + read timeout
+            assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).is(new HamcrestCondition<>(lessThan(2500L)));
+        }
+    }
+
+    @Test
+    public void test_pollTimeoutCancelsAttemptInProgress() {
+        HttpPollingResource deadlinePoller = HttpPollingResource.builder()
+                .pollUrls(ImmutableList.of("http://localhost:" + server.getPort()))
+                .numAttempts(10)
+                .readTimeoutMillis(5000)
+                .pollTimeoutMillis(700)
+                .build();
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        assertThatThrownBy(deadlinePoller::before)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("HTTP services was not ready within 700 milliseconds (gave up after ")
+                .hasMessageContaining("milliseconds): [http://localhost:" + server.getPort() + " (")
+                // the budget is only reported once, rather than again with the time that was left for the poller
+                .satisfies(e -> assertThat(Throwables.getCausalChain(e)).noneMatch(TimeoutException.class::isInstance));
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).is(new HamcrestCondition<>(lessThan(1500L)));
+    }
+
+    @Test
+    public void test_readinessProbesEveryEndpoint() {
+        HttpPollingResource cadencePoller = HttpPollingResource.builder()
+                .pollEndpoints(ImmutableList.of(HttpEndpoint.builder()
+                        .url("http://localhost:" + server.getPort())
+                        .intervalMillis(60_000)
+                        .build()))
+                .numAttempts(1)
+                .build();
+        server.enqueue(new MockResponse().setResponseCode(200));
+        cadencePoller.before();
+
+        // the endpoint is not due for another probe on its cadence, but a readiness check must not be stale
+        server.enqueue(new MockResponse().setResponseCode(503));
+        assertThat(cadencePoller.readiness().isReadyNow()).isFalse();
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_readinessAwaitsRecovery() {
+        server.enqueue(new MockResponse().setResponseCode(200));
+        poller.before();
+        HttpReadiness readiness = poller.readiness();
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        assertThat(readiness.isReadyNow()).isFalse();
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(200));
+        readiness.awaitReady(Duration.ofSeconds(5));
+        assertThat(server.getRequestCount()).isEqualTo(4);
+
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        assertThatThrownBy(() -> readiness.awaitReady(Duration.ofMillis(300)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("HTTP services was not ready within 300 milliseconds")
+                .hasRootCauseInstanceOf(IOException.class);
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).is(new HamcrestCondition<>(lessThan(500L)));
+    }
+
+    @Test
+    public void test_readinessAnswersFromFreshResults() {
+        server.enqueue(new MockResponse().setResponseCode(200));
+        poller.before();
+        HttpReadiness readiness = poller.readiness();
+
+        assertThat(readiness.isReady(Duration.ofMinutes(1))).isTrue();
+        assertThat(server.getRequestCount()).isEqualTo(1);
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        assertThat(readiness.isReady(Duration.ZERO)).isFalse();
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        assertThat(readiness.isReady(Duration.ofMinutes(1))).isFalse();
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_extensionResolvesReadiness() throws NoSuchMethodException {
+        HttpPollingExtension junit5 = HttpPollingExtension.builder()
+                .pollUrls(ImmutableList.of("http://localhost:" + server.getPort()))
+                .build();
+        Method method = getClass().getDeclaredMethod("readinessParameter", HttpReadiness.class, String.class);
+        ParameterContext readinessParameter = mock(ParameterContext.class);
+        when(readinessParameter.getParameter()).thenReturn(method.getParameters()[0]);
+        ParameterContext otherParameter = mock(ParameterContext.class);
+        when(otherParameter.getParameter()).thenReturn(method.getParameters()[1]);
+
+        assertThat(junit5.supportsParameter(readinessParameter, null)).isTrue();
+        assertThat(junit5.supportsParameter(otherParameter, null)).isFalse();
+        assertThat(junit5.resolveParameter(readinessParameter, null)).isSameAs(junit5.readiness());
+    }
+
+    @SuppressWarnings("unused")
+    private static void readinessParameter(HttpReadiness _readiness, String _other) {}
+
+    private static long countTransportThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("junit-resource-poller-http-"))
+                .count();
+    }
+
+    private static void trickleHeaders(ServerSocket trickler) {
+        try (Socket socket = trickler.accept()) {
+            OutputStream output = socket.getOutputStream();
+            output.write("HTTP/1.1 200 OK\r\n".getBytes(StandardCharsets.US_ASCII));
+            for (int i = 0; i < 50; i++) {
+                Thread.sleep(200);
+                output.write(("X-Header-" + i + ": value\r\n").getBytes(StandardCharsets.US_ASCII));
+                output.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // client gave up
+        }
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Stopwatch;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public final class StartupHistoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger probes = new AtomicInteger();
+    private Path file;
+    private Stopwatch stopwatch;
+
+    @Before
+    public void before() {
+        file = folder.getRoot().toPath().resolve("build").resolve("startup-history.properties");
+        stopwatch = Stopwatch.createStarted();
+    }
+
+    @Test
+    public void test_recordsTimeToReady() throws Exception {
+        ResourcePoller.poll(20, 100, readyAfter(300), StartupHistory.of(file), "service");
+
+        OptionalLong expected = StartupHistory.of(file).expectedReadyMillis("service");
+        assertThat(expected).isPresent();
+        assertThat(expected.getAsLong()).isBetween(300L, 1000L);
+        assertThat(StartupHistory.of(file).expectedReadyMillis("other")).isEmpty();
+    }
+
+    @Test
+    public void test_holdsBackUntilExpectedReadyTime() throws Exception {
+        StartupHistory.of(file).record("service", 1000);
+
+        ResourcePoller.poll(30, 100, readyAfter(1000), StartupHistory.of(file), "service");
+
+        // polling every 100 ms from the start would take 10 probes, this takes one up front and a few around 1000 ms
+        assertThat(probes.get()).isBetween(2, 7);
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(1000L);
+    }
+
+    @Test
+    public void test_doesNotHoldBackResourcesThatAreAlreadyUp() throws Exception {
+        StartupHistory.of(file).record("service", 1000);
+
+        ResourcePoller.poll(30, 100, readyAfter(0), StartupHistory.of(file), "service");
+
+        assertThat(probes.get()).isEqualTo(1);
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).isBetween(100L, 400L);
+        // an immediately ready resource is not a cold start, so the record is kept
+        assertThat(StartupHistory.of(file).expectedReadyMillis("service")).hasValue(1000L);
+    }
+
+    @Test
+    public void test_neverHoldsBackBeyondTimeout() throws Exception {
+        StartupHistory.of(file).record("service", 30_000);
+
+        ResourcePoller.poll(300, 100, 2000, readyAfter(1000), StartupHistory.of(file), "service");
+
+        // one probe up front, then a last one shortly before the deadline rather than giving up
+        assertThat(probes.get()).isEqualTo(2);
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).isBetween(1000L, 2000L);
+    }
+
+    @Test
+    public void test_fallsBackToRegularPollingAfterExpectedReadyTime() throws Exception {
+        StartupHistory.of(file).record("service", 200);
+
+        ResourcePoller.poll(30, 100, readyAfter(1000), StartupHistory.of(file), "service");
+
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).isBetween(1000L, 2000L);
+        assertThat(StartupHistory.of(file).expectedReadyMillis("service").getAsLong())
+                .isGreaterThanOrEqualTo(1000L);
+    }
+
+    @Test
+    public void test_ignoresStaleHistory() throws Exception {
+        StartupHistory.of(file).record("service", 1000);
+        Thread.sleep(10);
+
+        assertThat(StartupHistory.of(file, 1).expectedReadyMillis("service")).isEmpty();
+    }
+
+    private PollableResource readyAfter(long millis) {
+        return () -> {
+            probes.incrementAndGet();
+            return stopwatch.elapsed(TimeUnit.MILLISECONDS) >= millis
+                    ? Optional.empty()
+                    : Optional.of(new IllegalStateException("not ready"));
+        };
+    }
+}
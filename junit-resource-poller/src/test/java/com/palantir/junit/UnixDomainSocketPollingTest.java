@@ -0,0 +1,122 @@
+/*
+ * (c) Copyright 2026 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.junit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableList;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ProtocolFamily;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public final class UnixDomainSocketPollingTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final BlockingQueue<Integer> responseCodes = new LinkedBlockingQueue<>();
+    private final List<String> requestLines = new CopyOnWriteArrayList<>();
+    private Path socket;
+    private ServerSocketChannel server;
+
+    @Before
+    public void before() throws Exception {
+        Assume.assumeTrue("Unix domain sockets require Java 16 or later", UnixDomainSockets.isSupported());
+        socket = folder.getRoot().toPath().resolve("test.sock");
+        server = (ServerSocketChannel) ServerSocketChannel.class
+                .getMethod("open", ProtocolFamily.class)
+                .invoke(null, UnixDomainSockets.protocolFamily());
+        server.bind(UnixDomainSockets.address(socket));
+        Thread acceptor = new Thread(this::serve, "uds-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @After
+    public void after() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void test_pollsHttpOverUnixDomainSocket() {
+        responseCodes.add(503);
+        responseCodes.add(200);
+
+        HttpPollingResource.builder()
+                .pollUrls(ImmutableList.of("unix://" + socket + ":/health"))
+                .numAttempts(3)
+                .build()
+                .before();
+
+        assertThat(requestLines).containsExactly("GET /health HTTP/1.1", "GET /health HTTP/1.1");
+    }
+
+    @Test
+    public void test_failsIfSocketDoesNotExist() {
+        HttpPollingResource poller = HttpPollingResource.builder()
+                .pollUrls(ImmutableList.of("unix://" + socket + ".missing:/health"))
+                .numAttempts(2)
+                .build();
+
+        assertThatThrownBy(poller::before).isInstanceOf(IllegalStateException.class);
+        assertThat(requestLines).isEmpty();
+    }
+
+    /** A minimal HTTP/1.1 server that answers each connection with the next queued response code. */
+    private void serve() {
+        while (server.isOpen()) {
+            try (SocketChannel connection = server.accept()) {
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(Channels.newInputStream(connection), StandardCharsets.US_ASCII));
+                requestLines.add(reader.readLine());
+                String line;
+                do {
+                    line = reader.readLine();
+                } while (line != null && !line.isEmpty());
+
+                int code = responseCodes.isEmpty() ? 500 : responseCodes.remove();
+                OutputStream output = Channels.newOutputStream(connection);
+                output.write(String.format(
+                                "HTTP/1.1 %d Status\r\nContent-Length: 0\r\nConnection: close\r\n\r\n", code)
+                        .getBytes(StandardCharsets.US_ASCII));
+                output.flush();
+            } catch (IOException e) {
+                // server closed
+            }
+        }
+    }
+}